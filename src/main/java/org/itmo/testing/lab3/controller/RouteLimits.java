@@ -0,0 +1,27 @@
+package org.itmo.testing.lab3.controller;
+
+import org.itmo.testing.lab3.controller.admission.RouteLimit;
+
+import static org.itmo.testing.lab3.controller.admission.RequestPriority.*;
+
+/** Admission limits of the {@link UserAnalyticsController} routes, one per route handler. */
+public record RouteLimits(RouteLimit register, RouteLimit recordSession, RouteLimit totalActivity,
+                          RouteLimit monthlyActivity, RouteLimit inactiveUsers, RouteLimit admissionStats) {
+
+    public static final RouteLimits DEFAULT = new RouteLimits(new RouteLimit(WRITE, 50, 100),
+                                                              new RouteLimit(WRITE, 200, 400),
+                                                              new RouteLimit(READ, 100, 200),
+                                                              new RouteLimit(READ, 100, 200),
+                                                              new RouteLimit(EXPENSIVE_READ, 5, 20),
+                                                              new RouteLimit(EXPENSIVE_READ, 1, 5));
+
+    /** The same priorities with another rate for every route. */
+    public RouteLimits withRate(double permitsPerSecond, int burstCapacity) {
+        return new RouteLimits(register.withRate(permitsPerSecond, burstCapacity),
+                               recordSession.withRate(permitsPerSecond, burstCapacity),
+                               totalActivity.withRate(permitsPerSecond, burstCapacity),
+                               monthlyActivity.withRate(permitsPerSecond, burstCapacity),
+                               inactiveUsers.withRate(permitsPerSecond, burstCapacity),
+                               admissionStats.withRate(permitsPerSecond, burstCapacity));
+    }
+}
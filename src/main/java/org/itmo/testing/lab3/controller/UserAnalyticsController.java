@@ -3,21 +3,52 @@ package org.itmo.testing.lab3.controller;
 import io.javalin.Javalin;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+import org.itmo.testing.lab3.controller.admission.AdmissionControl;
 import org.itmo.testing.lab3.service.UserAnalyticsService;
 
+import java.lang.management.ManagementFactory;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
+@Slf4j
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class UserAnalyticsController {
 
+    /** Runs the warmup and exits without starting the server; used to train and verify the AppCDS archive. */
+    public static final String WARMUP_ONLY_PROPERTY = "lab3.warmupOnly";
+    /** Runs the warmup before the server starts accepting traffic. */
+    public static final String WARMUP_PROPERTY = "lab3.warmup";
+    public static final String WARMUP_ITERATIONS_PROPERTY = "lab3.warmup.iterations";
+
+    private static final int DEFAULT_PORT = 8080;
+    private static final int MAX_THREADS = 200;
+    private static final int MIN_THREADS = 8;
+    private static final int DEFAULT_WARMUP_ITERATIONS = 1000;
+
+    public static AdmissionControl createDefaultAdmissionControl(QueuedThreadPool threadPool) {
+        return new AdmissionControl(MAX_THREADS, threadPool::getQueueSize, System::nanoTime);
+    }
+
     public static Javalin createApp() {
+        QueuedThreadPool threadPool = new QueuedThreadPool(MAX_THREADS, MIN_THREADS);
+        return createApp(threadPool, createDefaultAdmissionControl(threadPool), RouteLimits.DEFAULT);
+    }
+
+    public static Javalin createApp(ThreadPool threadPool, AdmissionControl admissionControl,
+                                    RouteLimits routeLimits) {
         UserAnalyticsService service = new UserAnalyticsService();
-        Javalin app = Javalin.create();
+        Javalin app = Javalin.create(config -> config.jetty.threadPool = threadPool);
+
+        app.get(AdmissionControl.STATS_PATH,
+                admissionControl.limit(routeLimits.admissionStats(), admissionControl.statsHandler()));
 
-        app.post("/register", ctx -> {
+        app.post("/register", admissionControl.limit(routeLimits.register(), ctx -> {
             String userId = ctx.queryParam("userId");
             String userName = ctx.queryParam("userName");
             if (userId == null || userName == null) {
@@ -33,9 +64,9 @@ public class UserAnalyticsController {
                 ctx.status(400);
             }
             ctx.result("User registered: " + success);
-        });
+        }));
 
-        app.post("/recordSession", ctx -> {
+        app.post("/recordSession", admissionControl.limit(routeLimits.recordSession(), ctx -> {
             String userId = ctx.queryParam("userId");
             String loginTime = ctx.queryParam("loginTime");
             String logoutTime = ctx.queryParam("logoutTime");
@@ -53,9 +84,9 @@ public class UserAnalyticsController {
                 ctx.status(400)
                    .result("Invalid data: " + e.getMessage());
             }
-        });
+        }));
 
-        app.get("/totalActivity", ctx -> {
+        app.get("/totalActivity", admissionControl.limit(routeLimits.totalActivity(), ctx -> {
             String userId = ctx.queryParam("userId");
             if (userId == null) {
                 ctx.status(400)
@@ -69,9 +100,9 @@ public class UserAnalyticsController {
                 ctx.status(400)
                    .result(e.getMessage());
             }
-        });
+        }));
 
-        app.get("/inactiveUsers", ctx -> {
+        app.get("/inactiveUsers", admissionControl.limit(routeLimits.inactiveUsers(), ctx -> {
             String daysParam = ctx.queryParam("days");
             if (daysParam == null) {
                 ctx.status(400)
@@ -86,9 +117,9 @@ public class UserAnalyticsController {
                 ctx.status(400)
                    .result("Invalid number format for days");
             }
-        });
+        }));
 
-        app.get("/monthlyActivity", ctx -> {
+        app.get("/monthlyActivity", admissionControl.limit(routeLimits.monthlyActivity(), ctx -> {
             String userId = ctx.queryParam("userId");
             String monthParam = ctx.queryParam("month");
             if (userId == null || monthParam == null) {
@@ -104,12 +135,31 @@ public class UserAnalyticsController {
                 ctx.status(400)
                    .result("Invalid data: " + e.getMessage());
             }
-        });
+        }));
         return app;
     }
 
     public static void main(String[] args) {
-        createApp().start();
+        start(DEFAULT_PORT);
+    }
+
+    /**
+     * Runs the warmup if requested by the system properties and starts the server.
+     *
+     * @return the started server, or empty in warmup-only mode
+     */
+    static Optional<Javalin> start(int port) {
+        boolean warmupOnly = Boolean.getBoolean(WARMUP_ONLY_PROPERTY);
+        if (warmupOnly || Boolean.getBoolean(WARMUP_PROPERTY)) {
+            Warmup.run(Integer.getInteger(WARMUP_ITERATIONS_PROPERTY, DEFAULT_WARMUP_ITERATIONS));
+        }
+        if (warmupOnly) {
+            return Optional.empty();
+        }
+        Javalin app = createApp().start(port);
+        log.info("Server ready in {} ms since JVM start", ManagementFactory.getRuntimeMXBean()
+                                                                           .getUptime());
+        return Optional.of(app);
     }
 }
 
@@ -0,0 +1,178 @@
+package org.itmo.testing.lab3.controller;
+
+import io.javalin.Javalin;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.itmo.testing.lab3.controller.admission.AdmissionControl;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process warmup: exercises every route of a throwaway application instance over HTTP, so that
+ * Javalin, Jackson and the route handlers are loaded and JIT-compiled before the real server starts
+ * accepting traffic. The throwaway instance has its own service, so warmup data never reaches the
+ * real one.
+ *
+ * <p>Users and sessions are created once in a setup phase; the measured rounds then run a fixed
+ * workload over that dataset, so round latencies are comparable and only reflect warmup.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class Warmup {
+
+    private static final int USER_POOL_SIZE = 20;
+    private static final int SESSIONS_PER_USER = 5;
+    private static final String UNKNOWN_USER_ID = "warmup-unknown";
+    private static final LocalDateTime SESSION_START = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    /** Warmup must never be throttled by the admission control it exercises. */
+    private static final double WARMUP_PERMITS_PER_SECOND = 1_000_000;
+    private static final int WARMUP_BURST_CAPACITY = 1_000_000;
+
+    /** Steady state is reached once the rolling median stays within this factor of the final median. */
+    private static final double STEADY_STATE_TOLERANCE = 1.2;
+    private static final int STEADY_STATE_WINDOW = 20;
+    /**
+     * Latency keeps improving while the JIT is still compiling, and then the final window is simply
+     * the fastest one. Steady state only counts as reached when it held for this many rounds.
+     */
+    private static final int STEADY_STATE_MIN_ROUNDS = 5 * STEADY_STATE_WINDOW;
+
+    /**
+     * @param iterations         number of warmup rounds, each round calls every route once
+     * @param firstRoundMicros   latency of the first round, i.e. the cold-start cost
+     * @param lastRoundMicros    latency of the last round
+     * @param steadyStateMillis  time from the start of the rounds until the rolling median latency settled
+     * @param steadyStateReached whether the settled latency held long enough to be trusted
+     * @param totalMillis        total time of the rounds, setup excluded
+     */
+    public record Report(int iterations, long firstRoundMicros, long lastRoundMicros, long steadyStateMillis,
+                         boolean steadyStateReached, long totalMillis) {}
+
+    public static Report run(int iterations) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("Iterations must be positive");
+        }
+        Javalin app = UserAnalyticsController.createApp(new QueuedThreadPool(),
+                                                        new AdmissionControl(Integer.MAX_VALUE, () -> 0,
+                                                                             System::nanoTime),
+                                                        RouteLimits.DEFAULT.withRate(WARMUP_PERMITS_PER_SECOND,
+                                                                                     WARMUP_BURST_CAPACITY))
+                                             .start(0);
+        try {
+            // The server speaks HTTP/1.1 only; the default HTTP/2 client would warm its upgrade path instead
+            HttpClient client = HttpClient.newBuilder()
+                                          .version(HttpClient.Version.HTTP_1_1)
+                                          .build();
+            String baseUri = "http://localhost:" + app.port();
+            setUp(client, baseUri);
+
+            long[] roundNanos = new long[iterations];
+            long[] roundEndNanos = new long[iterations];
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                long roundStart = System.nanoTime();
+                runRound(client, baseUri, i);
+                roundEndNanos[i] = System.nanoTime() - start;
+                roundNanos[i] = roundEndNanos[i] - (roundStart - start);
+            }
+            int steadyStateRounds = steadyStateRounds(roundNanos);
+            Report report = new Report(iterations, TimeUnit.NANOSECONDS.toMicros(roundNanos[0]),
+                                       TimeUnit.NANOSECONDS.toMicros(roundNanos[iterations - 1]),
+                                       TimeUnit.NANOSECONDS.toMillis(roundEndNanos[steadyStateRounds - 1]),
+                                       iterations - steadyStateRounds >= STEADY_STATE_MIN_ROUNDS,
+                                       TimeUnit.NANOSECONDS.toMillis(roundEndNanos[iterations - 1]));
+            log.info("Warmup finished: {}", report);
+            if (!report.steadyStateReached()) {
+                log.warn("Warmup latency was still improving after {} rounds; increase {}", iterations,
+                         UserAnalyticsController.WARMUP_ITERATIONS_PROPERTY);
+            }
+            return report;
+        } finally {
+            app.stop();
+        }
+    }
+
+    private static void setUp(HttpClient client, String baseUri) {
+        for (int user = 0; user < USER_POOL_SIZE; user++) {
+            String userId = "user" + user;
+            send(client, post(baseUri + "/register?userId=" + userId + "&userName=Warmup"));
+            for (int session = 0; session < SESSIONS_PER_USER; session++) {
+                LocalDateTime login = SESSION_START.plusDays(user + session);
+                send(client, post(baseUri + "/recordSession?userId=" + userId + "&loginTime=" + login
+                                          + "&logoutTime=" + login.plusMinutes(30)));
+            }
+        }
+    }
+
+    /**
+     * Every round costs the same: write routes are called with outcomes that do not grow the
+     * dataset (an already registered user, a session of an unknown user), reads go over the pool.
+     */
+    private static void runRound(HttpClient client, String baseUri, int iteration) {
+        int user = iteration % USER_POOL_SIZE;
+        String userId = "user" + user;
+        LocalDateTime login = SESSION_START.plusDays(user);
+        send(client, post(baseUri + "/register?userId=" + userId + "&userName=Warmup"));
+        send(client, post(baseUri + "/recordSession?userId=" + UNKNOWN_USER_ID + "&loginTime=" + login
+                                  + "&logoutTime=" + login.plusMinutes(30)));
+        send(client, get(baseUri + "/totalActivity?userId=" + userId));
+        send(client, get(baseUri + "/monthlyActivity?userId=" + userId + "&month=" + YearMonth.from(login)));
+        send(client, get(baseUri + "/inactiveUsers?days=" + SESSIONS_PER_USER));
+        send(client, get(baseUri + AdmissionControl.STATS_PATH));
+    }
+
+    private static HttpRequest.Builder get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri));
+    }
+
+    private static HttpRequest.Builder post(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                          .POST(HttpRequest.BodyPublishers.noBody());
+    }
+
+    private static void send(HttpClient client, HttpRequest.Builder request) {
+        try {
+            client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            throw new IllegalStateException("Warmup request failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            throw new IllegalStateException("Warmup interrupted", e);
+        }
+    }
+
+    /**
+     * Compares the rolling median of round latencies against the median of the final window, so
+     * that a single GC pause or scheduler hiccup does not move the result.
+     *
+     * @return number of rounds until the rolling median settled
+     */
+    static int steadyStateRounds(long[] roundNanos) {
+        int window = Math.min(STEADY_STATE_WINDOW, roundNanos.length);
+        long finalMedian = median(roundNanos, roundNanos.length - window, roundNanos.length);
+        for (int end = roundNanos.length; end >= window; end--) {
+            if (median(roundNanos, end - window, end) > finalMedian * STEADY_STATE_TOLERANCE) {
+                return end;
+            }
+        }
+        return window;
+    }
+
+    private static long median(long[] values, int from, int to) {
+        long[] sorted = Arrays.copyOfRange(values, from, to);
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
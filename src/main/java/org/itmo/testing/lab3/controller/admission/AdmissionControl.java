@@ -0,0 +1,194 @@
+package org.itmo.testing.lab3.controller.admission;
+
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.http.HttpStatus;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control for the HTTP routes: per-client/per-route token bucket rate limiting and
+ * priority-based load shedding. Rejected requests get {@code 429 Too Many Requests} with a
+ * {@code Retry-After} header.
+ *
+ * <p>Limits are attached to the route handlers themselves with {@link #limit(RouteLimit, Handler)},
+ * so a request is limited exactly when the router dispatches it to the handler, whatever form of
+ * the path (e.g. with a trailing slash) it used.
+ *
+ * <p>Shedding works on the server load: requests inside a handler plus jobs waiting in the server
+ * thread pool queue. The handlers are short in-memory calls, so under a spike the load shows up
+ * almost entirely as queueing. A request is admitted while the load is below its priority's share
+ * of the load limit.
+ *
+ * <p>Clients are identified by their IP address. The {@value #CLIENT_ID_HEADER} header is used
+ * only when {@code trustClientIdHeader} is enabled, i.e. when the header is set by a trusted
+ * gateway: a client choosing its own identifier gets a fresh burst with every new value.
+ *
+ * <p>The number of buckets is bounded. When the table is full, buckets that have refilled
+ * completely are evicted, and clients that still do not fit share one overflow bucket per route.
+ */
+public class AdmissionControl {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
+    public static final String STATS_PATH = "/admissionStats";
+    public static final int DEFAULT_MAX_BUCKETS = 10_000;
+
+    private static final long SHED_RETRY_AFTER_SECONDS = 1;
+    private static final long EVICTION_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int maxLoad;
+    private final int maxBuckets;
+    private final boolean trustClientIdHeader;
+    private final IntSupplier queuedRequests;
+    private final LongSupplier nanoClock;
+    private final Map<BucketKey, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<Object, TokenBucket> overflowBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastEviction = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rateLimited = new LongAdder();
+    private final Map<RequestPriority, LongAdder> shed = new EnumMap<>(RequestPriority.class);
+
+    public AdmissionControl(int maxLoad, IntSupplier queuedRequests, LongSupplier nanoClock) {
+        this(maxLoad, DEFAULT_MAX_BUCKETS, false, queuedRequests, nanoClock);
+    }
+
+    /**
+     * @param maxLoad             load limit: requests in handlers plus queued requests
+     * @param maxBuckets          maximum number of per-client token buckets
+     * @param trustClientIdHeader whether to identify clients by the {@value #CLIENT_ID_HEADER} header
+     * @param queuedRequests      number of requests waiting for a server thread
+     * @param nanoClock           time source for the token buckets
+     */
+    public AdmissionControl(int maxLoad, int maxBuckets, boolean trustClientIdHeader, IntSupplier queuedRequests,
+                            LongSupplier nanoClock) {
+        if (maxLoad <= 0) {
+            throw new IllegalArgumentException("Load limit must be positive");
+        }
+        if (maxBuckets <= 0) {
+            throw new IllegalArgumentException("Bucket limit must be positive");
+        }
+        this.maxLoad = maxLoad;
+        this.maxBuckets = maxBuckets;
+        this.trustClientIdHeader = trustClientIdHeader;
+        this.queuedRequests = queuedRequests;
+        this.nanoClock = nanoClock;
+        for (RequestPriority priority : RequestPriority.values()) {
+            shed.put(priority, new LongAdder());
+        }
+        this.lastEviction.set(nanoClock.getAsLong());
+    }
+
+    /** Wraps a route handler so that every request it receives goes through admission first. */
+    public Handler limit(RouteLimit routeLimit, Handler handler) {
+        Object route = new Object();
+        return ctx -> {
+            long waitNanos = bucket(clientId(ctx), route, routeLimit).tryAcquire();
+            if (waitNanos > 0) {
+                rateLimited.increment();
+                reject(ctx, Math.max(1, divideRoundingUp(waitNanos, TimeUnit.SECONDS.toNanos(1))));
+                return;
+            }
+            if (!tryEnter(routeLimit.priority())) {
+                shed.get(routeLimit.priority())
+                    .increment();
+                reject(ctx, SHED_RETRY_AFTER_SECONDS);
+                return;
+            }
+            try {
+                handler.handle(ctx);
+            } finally {
+                exit();
+            }
+        };
+    }
+
+    /** Handler of the {@value #STATS_PATH} route; it should be registered through {@link #limit} as well. */
+    public Handler statsHandler() {
+        return ctx -> ctx.json(getStats());
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("inFlight", (long) inFlight.get());
+        stats.put("queued", (long) queuedRequests.getAsInt());
+        stats.put("rateLimited", rateLimited.sum());
+        stats.put("buckets", (long) buckets.size());
+        shed.forEach((priority, count) -> stats.put("shed." + priority, count.sum()));
+        return stats;
+    }
+
+    TokenBucket bucket(String clientId, Object route, RouteLimit routeLimit) {
+        BucketKey key = new BucketKey(clientId, route);
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxBuckets) {
+            evictFullBuckets();
+            if (buckets.size() >= maxBuckets) {
+                return overflowBuckets.computeIfAbsent(route, k -> newBucket(routeLimit));
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> newBucket(routeLimit));
+    }
+
+    private void evictFullBuckets() {
+        // Sweeping is linear in the table size, so it runs at most once per interval
+        long now = nanoClock.getAsLong();
+        long last = lastEviction.get();
+        if (now - last >= EVICTION_INTERVAL_NANOS && lastEviction.compareAndSet(last, now)) {
+            buckets.values()
+                   .removeIf(TokenBucket::isFull);
+        }
+    }
+
+    private TokenBucket newBucket(RouteLimit routeLimit) {
+        return new TokenBucket(routeLimit.permitsPerSecond(), routeLimit.burstCapacity(), nanoClock);
+    }
+
+    boolean tryEnter(RequestPriority priority) {
+        int limit = (int) Math.ceil(maxLoad * priority.getLoadShare());
+        int queued = queuedRequests.getAsInt();
+        // CAS instead of increment-then-check, so that shed requests never inflate the counter
+        // and cannot push a concurrent higher-priority request over its limit
+        int current;
+        do {
+            current = inFlight.get();
+            if (current + queued >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    void exit() {
+        inFlight.decrementAndGet();
+    }
+
+    private static void reject(Context ctx, long retryAfterSeconds) {
+        ctx.status(HttpStatus.TOO_MANY_REQUESTS)
+           .header(RETRY_AFTER_HEADER, String.valueOf(retryAfterSeconds))
+           .result("Too many requests");
+    }
+
+    private String clientId(Context ctx) {
+        String clientId = trustClientIdHeader ? ctx.header(CLIENT_ID_HEADER) : null;
+        return clientId != null ? clientId : ctx.ip();
+    }
+
+    private static long divideRoundingUp(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    private record BucketKey(String clientId, Object route) {}
+}
@@ -0,0 +1,19 @@
+package org.itmo.testing.lab3.controller.admission;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Priority class of a route. Under overload, requests are shed starting from the lowest priority:
+ * expensive scans go first, writes are shed only when the server is completely saturated.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RequestPriority {
+    EXPENSIVE_READ(0.5),
+    READ(0.8),
+    WRITE(1.0);
+
+    /** Share of the load limit up to which requests of this priority are admitted. */
+    private final double loadShare;
+}
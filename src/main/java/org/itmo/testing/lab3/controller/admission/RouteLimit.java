@@ -0,0 +1,15 @@
+package org.itmo.testing.lab3.controller.admission;
+
+/**
+ * Admission settings of a single route.
+ *
+ * @param priority         shedding priority of the route
+ * @param permitsPerSecond sustained request rate allowed per client
+ * @param burstCapacity    number of requests a client may send in a burst
+ */
+public record RouteLimit(RequestPriority priority, double permitsPerSecond, int burstCapacity) {
+
+    public RouteLimit withRate(double permitsPerSecond, int burstCapacity) {
+        return new RouteLimit(priority, permitsPerSecond, burstCapacity);
+    }
+}
@@ -0,0 +1,86 @@
+package org.itmo.testing.lab3.controller;
+
+import io.javalin.Javalin;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmupTest {
+
+    @Test
+    void testRun_ReportIsConsistent() {
+        Warmup.Report report = Warmup.run(30);
+        assertEquals(30, report.iterations());
+        assertTrue(report.firstRoundMicros() > 0);
+        assertTrue(report.lastRoundMicros() > 0);
+        assertTrue(report.steadyStateMillis() >= 0);
+        assertTrue(report.totalMillis() >= report.steadyStateMillis());
+    }
+
+    @Test
+    void testRun_InvalidIterations() {
+        assertThrows(IllegalArgumentException.class, () -> Warmup.run(0));
+    }
+
+    @Test
+    void testStart_WarmupLeavesNoState() {
+        System.setProperty(UserAnalyticsController.WARMUP_PROPERTY, "true");
+        System.setProperty(UserAnalyticsController.WARMUP_ITERATIONS_PROPERTY, "5");
+        Javalin app;
+        try {
+            app = UserAnalyticsController.start(0)
+                                         .orElseThrow();
+        } finally {
+            System.clearProperty(UserAnalyticsController.WARMUP_PROPERTY);
+            System.clearProperty(UserAnalyticsController.WARMUP_ITERATIONS_PROPERTY);
+        }
+        try {
+            given().port(app.port())
+                   .queryParam("userId", "user0")
+                   .when()
+                   .get("/totalActivity")
+                   .then()
+                   .statusCode(400)
+                   .body(equalTo("No sessions found for user"));
+        } finally {
+            app.stop();
+        }
+    }
+
+    @Test
+    void testStart_WarmupOnly() {
+        System.setProperty(UserAnalyticsController.WARMUP_ONLY_PROPERTY, "true");
+        System.setProperty(UserAnalyticsController.WARMUP_ITERATIONS_PROPERTY, "5");
+        try {
+            assertTrue(UserAnalyticsController.start(0)
+                                              .isEmpty());
+        } finally {
+            System.clearProperty(UserAnalyticsController.WARMUP_ONLY_PROPERTY);
+            System.clearProperty(UserAnalyticsController.WARMUP_ITERATIONS_PROPERTY);
+        }
+    }
+
+    @Test
+    void testSteadyStateRounds_IgnoresSingleOutlier() {
+        long[] roundNanos = new long[100];
+        Arrays.fill(roundNanos, 0, 20, 1000);
+        Arrays.fill(roundNanos, 20, 100, 100);
+        roundNanos[95] = 10_000;
+
+        assertEquals(30, Warmup.steadyStateRounds(roundNanos));
+    }
+
+    @Test
+    void testSteadyStateRounds_StillImproving() {
+        long[] roundNanos = LongStream.rangeClosed(1, 200)
+                                      .map(round -> 10_000 / round)
+                                      .toArray();
+
+        assertTrue(Warmup.steadyStateRounds(roundNanos) > 150);
+    }
+}
@@ -0,0 +1,155 @@
+package org.itmo.testing.lab3.controller.admission;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTest {
+
+    private AtomicLong clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+    }
+
+    @Test
+    void testTokenBucket_AllowsBurstThenRejects() {
+        TokenBucket bucket = new TokenBucket(1, 3, clock::get);
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+
+        long waitNanos = bucket.tryAcquire();
+        assertTrue(waitNanos > 0);
+        assertTrue(waitNanos <= TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void testTokenBucket_RefillsOverTime() {
+        TokenBucket bucket = new TokenBucket(2, 1, clock::get);
+        assertEquals(0, bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire() > 0);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(0, bucket.tryAcquire());
+    }
+
+    @Test
+    void testTokenBucket_InvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1, clock::get));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0, clock::get));
+    }
+
+    @Test
+    void testBucket_TableIsBounded() {
+        RouteLimit routeLimit = new RouteLimit(RequestPriority.READ, 1, 1);
+        AdmissionControl admissionControl = new AdmissionControl(10, 2, false, () -> 0, clock::get);
+        assertEquals(0, admissionControl.bucket("client1", "/route", routeLimit)
+                                        .tryAcquire());
+        assertEquals(0, admissionControl.bucket("client2", "/route", routeLimit)
+                                        .tryAcquire());
+
+        TokenBucket overflow = admissionControl.bucket("client3", "/route", routeLimit);
+        assertSame(overflow, admissionControl.bucket("client4", "/route", routeLimit));
+        assertEquals(2L, admissionControl.getStats()
+                                         .get("buckets"));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertNotSame(overflow, admissionControl.bucket("client3", "/route", routeLimit));
+        assertEquals(1L, admissionControl.getStats()
+                                         .get("buckets"));
+    }
+
+    @Test
+    void testTokenBucket_IsFull() {
+        TokenBucket bucket = new TokenBucket(1, 2, clock::get);
+        assertTrue(bucket.isFull());
+        bucket.tryAcquire();
+        assertFalse(bucket.isFull());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(bucket.isFull());
+    }
+
+    @Test
+    void testTryEnter_ShedsLowPriorityFirst() {
+        AdmissionControl admissionControl = new AdmissionControl(10, () -> 0, clock::get);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(admissionControl.tryEnter(RequestPriority.EXPENSIVE_READ));
+        }
+        assertFalse(admissionControl.tryEnter(RequestPriority.EXPENSIVE_READ));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(admissionControl.tryEnter(RequestPriority.READ));
+        }
+        assertFalse(admissionControl.tryEnter(RequestPriority.READ));
+        assertTrue(admissionControl.tryEnter(RequestPriority.WRITE));
+        assertTrue(admissionControl.tryEnter(RequestPriority.WRITE));
+        assertFalse(admissionControl.tryEnter(RequestPriority.WRITE));
+
+        admissionControl.exit();
+        assertTrue(admissionControl.tryEnter(RequestPriority.WRITE));
+        assertEquals(10L, admissionControl.getStats()
+                                          .get("inFlight"));
+    }
+
+    @Test
+    void testTryEnter_QueuedRequestsCountTowardsLoad() {
+        AtomicInteger queued = new AtomicInteger(6);
+        AdmissionControl admissionControl = new AdmissionControl(10, queued::get, clock::get);
+        assertFalse(admissionControl.tryEnter(RequestPriority.EXPENSIVE_READ));
+        assertTrue(admissionControl.tryEnter(RequestPriority.READ));
+        assertTrue(admissionControl.tryEnter(RequestPriority.READ));
+        assertFalse(admissionControl.tryEnter(RequestPriority.READ));
+        assertTrue(admissionControl.tryEnter(RequestPriority.WRITE));
+
+        queued.set(0);
+        assertTrue(admissionControl.tryEnter(RequestPriority.EXPENSIVE_READ));
+    }
+
+    @Test
+    void testTryEnter_ShedReadsDoNotBlockWrites() throws Exception {
+        AdmissionControl admissionControl = new AdmissionControl(10, () -> 0, clock::get);
+        for (int i = 0; i < 8; i++) {
+            assertTrue(admissionControl.tryEnter(RequestPriority.READ));
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                readers.add(executor.submit(() -> {
+                    while (running.get()) {
+                        assertFalse(admissionControl.tryEnter(RequestPriority.READ));
+                    }
+                }));
+            }
+            for (int i = 0; i < 100_000; i++) {
+                assertTrue(admissionControl.tryEnter(RequestPriority.WRITE));
+                assertTrue(admissionControl.tryEnter(RequestPriority.WRITE));
+                admissionControl.exit();
+                admissionControl.exit();
+            }
+            running.set(false);
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(8L, admissionControl.getStats()
+                                         .get("inFlight"));
+    }
+}
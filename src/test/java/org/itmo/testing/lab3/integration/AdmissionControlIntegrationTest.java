@@ -0,0 +1,165 @@
+package org.itmo.testing.lab3.integration;
+
+import io.javalin.Javalin;
+import io.restassured.response.Response;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.itmo.testing.lab3.controller.RouteLimits;
+import org.itmo.testing.lab3.controller.UserAnalyticsController;
+import org.itmo.testing.lab3.controller.admission.AdmissionControl;
+import org.itmo.testing.lab3.controller.admission.RouteLimit;
+import org.junit.jupiter.api.*;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.itmo.testing.lab3.controller.admission.RequestPriority.*;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class AdmissionControlIntegrationTest {
+
+    private static final int PORT = 7001;
+
+    private Javalin app;
+
+    @BeforeAll
+    void setUp() {
+        AdmissionControl admissionControl = new AdmissionControl(100, () -> 0, System::nanoTime);
+        RouteLimits routeLimits = new RouteLimits(new RouteLimit(WRITE, 0.1, 1),
+                                                  new RouteLimit(WRITE, 100, 100),
+                                                  new RouteLimit(READ, 0.1, 2),
+                                                  new RouteLimit(READ, 100, 100),
+                                                  new RouteLimit(EXPENSIVE_READ, 100, 100),
+                                                  new RouteLimit(EXPENSIVE_READ, 0.1, 2));
+        app = UserAnalyticsController.createApp(new QueuedThreadPool(), admissionControl, routeLimits);
+        app.get("/failure", admissionControl.limit(new RouteLimit(READ, 100, 100), ctx -> {
+            throw new IllegalStateException("Handler failure");
+        }));
+        app.start(PORT);
+    }
+
+    @AfterAll
+    void tearDown() {
+        app.stop();
+    }
+
+    private Response getTotalActivity(String clientId) {
+        return given().port(PORT)
+                      .header(AdmissionControl.CLIENT_ID_HEADER, clientId)
+                      .queryParam("userId", "user1")
+                      .when()
+                      .get("/totalActivity");
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Тест отклонения запросов сверх лимита")
+    void testRateLimit_BurstExceeded() {
+        getTotalActivity("client1").then()
+                                   .statusCode(400);
+        getTotalActivity("client1").then()
+                                   .statusCode(400);
+
+        Response response = getTotalActivity("client1");
+        response.then()
+                .statusCode(429)
+                .body(equalTo("Too many requests"));
+        int retryAfter = Integer.parseInt(response.header(AdmissionControl.RETRY_AFTER_HEADER));
+        assertTrue(retryAfter >= 1 && retryAfter <= 10);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Тест игнорирования заголовка X-Client-Id без доверия к нему")
+    void testRateLimit_ClientIdHeaderNotTrusted() {
+        getTotalActivity("client2").then()
+                                   .statusCode(429);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Тест лимита для пути с завершающим слешем")
+    void testRateLimit_TrailingSlash() {
+        given().port(PORT)
+               .queryParam("userId", "user1")
+               .when()
+               .get("/totalActivity/")
+               .then()
+               .statusCode(429)
+               .header(AdmissionControl.RETRY_AFTER_HEADER, notNullValue());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Тест пропуска обработчика для отклонённого запроса")
+    void testRateLimit_EndpointSkipped() {
+        given().port(PORT)
+               .queryParam("userId", "user1")
+               .queryParam("userName", "Alice")
+               .when()
+               .post("/register")
+               .then()
+               .statusCode(200);
+        given().port(PORT)
+               .queryParam("userId", "user2")
+               .queryParam("userName", "Bob")
+               .when()
+               .post("/register")
+               .then()
+               .statusCode(429)
+               .header(AdmissionControl.RETRY_AFTER_HEADER, notNullValue());
+
+        given().port(PORT)
+               .queryParam("userId", "user2")
+               .queryParam("loginTime", "2025-01-01T10:00:00")
+               .queryParam("logoutTime", "2025-01-01T11:00:00")
+               .when()
+               .post("/recordSession")
+               .then()
+               .statusCode(400)
+               .body(equalTo("Invalid data: User not found"));
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Тест освобождения разрешений после успешных и упавших запросов")
+    void testAdmissionStats_PermitsReleased() {
+        given().port(PORT)
+               .queryParam("days", "1")
+               .when()
+               .get("/inactiveUsers")
+               .then()
+               .statusCode(200);
+        given().port(PORT)
+               .when()
+               .get("/failure")
+               .then()
+               .statusCode(500);
+
+        // The stats request itself is admitted like any other and is the only one in flight
+        given().port(PORT)
+               .when()
+               .get(AdmissionControl.STATS_PATH)
+               .then()
+               .statusCode(200)
+               .body("inFlight", equalTo(1))
+               .body("rateLimited", equalTo(4))
+               .body("'shed.WRITE'", equalTo(0));
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Тест лимита для статистики контроля доступа")
+    void testAdmissionStats_RateLimited() {
+        given().port(PORT)
+               .when()
+               .get(AdmissionControl.STATS_PATH)
+               .then()
+               .statusCode(200);
+        given().port(PORT)
+               .when()
+               .get(AdmissionControl.STATS_PATH)
+               .then()
+               .statusCode(429);
+    }
+}